@@ -23,6 +23,8 @@ dependencies {
 
     // Spring
     implementation("org.springframework.boot:spring-boot-starter")
+    implementation("org.springframework.boot:spring-boot-starter-validation")
+    annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
 
     // JDA
     implementation("net.dv8tion:JDA:5.0.0-beta.13")
@@ -1,22 +1,81 @@
 package de.efi23a.bot;
 
+import de.efi23a.bot.config.BotProperties;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
 public class BotConfiguration {
 
-  private static final String TOKEN_ENV_VARIABLE = "BOT_TOKEN";
+  /**
+   * Discord erlaubt etwa eine Anmeldung alle fünf Sekunden, daher großzügig pro Shard.
+   */
+  private static final Duration STARTUP_TIMEOUT_PER_SHARD = Duration.ofSeconds(30);
 
-  @Bean
-  JDA jda() throws InterruptedException {
-    String token = System.getenv(TOKEN_ENV_VARIABLE);
+  /**
+   * Startet die Shards dieses Pods. Ohne {@code SHARD_TOTAL} wird die von Discord empfohlene
+   * Anzahl verwendet, mit {@code SHARD_MIN}/{@code SHARD_MAX} startet der Pod nur diesen Bereich.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ShardManager shardManager(BotProperties properties) throws InterruptedException {
+    BotProperties.Shards shards = properties.shards();
+    if (!shards.isRangeValid()) {
+      throw new IllegalStateException("Invalid shard range: " + shards);
+    }
+    boolean ranged = shards.ranged();
 
-    return JDABuilder.createDefault(token)
-        .build()
-        .awaitReady();
+    DefaultShardManagerBuilder builder =
+        DefaultShardManagerBuilder.createDefault(properties.token())
+            .setShardsTotal(shards.total());
+    if (ranged) {
+      builder.setShards(shards.min(), shards.max());
+    }
+
+    ShardManager shardManager = builder.build();
+    awaitShards(shardManager,
+        ranged ? shards.max() - shards.min() + 1 : shardManager.getShardsTotal());
+    return shardManager;
+  }
+
+  /**
+   * Wartet, bis alle Shards dieses Pods verbunden sind. Der ShardManager startet die Shards
+   * nacheinander, daher reicht ein einzelnes {@link JDA#awaitReady()} nicht aus. Ist nach
+   * Ablauf der Frist nicht jeder Shard verbunden, schlägt der Start fehl statt ewig zu warten.
+   */
+  private void awaitShards(ShardManager shardManager, int expectedShards)
+      throws InterruptedException {
+    Duration timeout = STARTUP_TIMEOUT_PER_SHARD.multipliedBy(Math.max(expectedShards, 1));
+    long deadline = System.nanoTime() + timeout.toNanos();
+
+    while (!allConnected(shardManager, expectedShards)) {
+      if (System.nanoTime() > deadline) {
+        shardManager.shutdown();
+        throw new IllegalStateException("Shards not ready after " + timeout + ": "
+            + describeShards(shardManager));
+      }
+      Thread.sleep(500);
+    }
+
+    log.info("{} shards connected", expectedShards);
+  }
+
+  private boolean allConnected(ShardManager shardManager, int expectedShards) {
+    return shardManager.getShardCache().size() >= expectedShards
+        && shardManager.getShardCache().stream()
+        .allMatch(shard -> shard.getStatus() == JDA.Status.CONNECTED);
+  }
+
+  private String describeShards(ShardManager shardManager) {
+    return shardManager.getShardCache().stream()
+        .map(shard -> shard.getShardInfo().getShardId() + "=" + shard.getStatus())
+        .collect(Collectors.joining(", ", "[", "]"));
   }
 
 }
@@ -0,0 +1,92 @@
+package de.efi23a.bot.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Alle Einstellungen des Bots, einmalig gebunden und validiert.
+ *
+ * <p>Die Werte kommen aus der {@code application.yml}, die die bisherigen Umgebungsvariablen
+ * übernimmt, und optional aus der Datei in {@code BOT_CONFIG_FILE}. Werte, die zur Laufzeit
+ * geändert werden können, werden über {@link BotSettings} gelesen.
+ */
+@Validated
+@ConfigurationProperties("bot")
+public record BotProperties(
+    @NotBlank String token,
+    @Valid @NotNull Shards shards,
+    @Valid @NotNull Alert alert,
+    @Valid @NotNull Mongo mongo,
+    @Valid @NotNull Legacy legacy) {
+
+  /**
+   * Shards dieses Pods, {@code -1} steht jeweils für "nicht gesetzt".
+   */
+  public record Shards(@Min(-1) int total, @Min(-1) int min, @Min(-1) int max) {
+
+    /**
+     * Startet der Pod nur einen Teil der Shards.
+     */
+    public boolean ranged() {
+      return min >= 0 || max >= 0;
+    }
+
+    /**
+     * Ein Bereich braucht {@code total}, {@code min} und {@code max} mit
+     * {@code 0 <= min <= max < total}. Ein halb gesetzter Bereich würde sonst stillschweigend
+     * alle Shards starten.
+     */
+    @AssertTrue(message = "shard range needs total, min and max with 0 <= min <= max < total")
+    public boolean isRangeValid() {
+      if (total == 0) {
+        return false;
+      }
+      if (!ranged()) {
+        return true;
+      }
+      return total > 0 && min >= 0 && min <= max && max < total;
+    }
+  }
+
+  /**
+   * Abstände der Erinnerungen in Stunden.
+   */
+  public record Alert(@Positive int firstReminder, @Positive int lastReminder) {
+  }
+
+  /**
+   * Verbindung und Connection Pool des gemeinsamen MongoClients.
+   */
+  public record Mongo(
+      @NotBlank String connectionString,
+      @NotBlank String database,
+      @NotNull Duration connectTimeout,
+      @NotNull Duration readTimeout,
+      @Valid @NotNull Pool pool) {
+
+    /**
+     * Größe und Wartezeiten des Connection Pools.
+     */
+    public record Pool(
+        @Positive int maxSize,
+        @PositiveOrZero int minSize,
+        @NotNull Duration maxWaitTime,
+        @NotNull Duration maxConnectionIdleTime) {
+    }
+  }
+
+  /**
+   * Alte, globale Konfiguration, die beim Start in die Guild-Einstellungen übernommen wird.
+   */
+  public record Legacy(String alertChannelId, String alertRoleId, String mailChannelId,
+                       String mailUrl) {
+  }
+}
@@ -0,0 +1,146 @@
+package de.efi23a.bot.config;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hält die aktuell gültigen {@link BotProperties} und lädt sie neu, sobald sich die Datei in
+ * {@code BOT_CONFIG_FILE} ändert.
+ *
+ * <p>Ungültige Änderungen werden verworfen, die bisherigen Werte bleiben dann aktiv. Werte, die
+ * nur beim Start gelesen werden (Token, Shards, MongoDB), brauchen weiterhin einen Neustart.
+ */
+@Slf4j
+@Component
+public class BotSettings {
+
+  private static final String PREFIX = "bot";
+  private static final String CONFIG_RESOURCE = "Config resource";
+
+  private final ConfigurableEnvironment environment;
+  private final Validator validator;
+  private final Path configFile;
+  private final String configFileLocation;
+  private final AtomicReference<BotProperties> current;
+  private FileTime lastModified;
+
+  public BotSettings(BotProperties properties, ConfigurableEnvironment environment,
+                     Validator validator, @Value("${bot.config-file}") String configFile) {
+    this.environment = environment;
+    this.validator = validator;
+    this.configFile = Path.of(configFile);
+    this.configFileLocation = "file:" + configFile;
+    this.current = new AtomicReference<>(properties);
+    this.lastModified = readLastModified();
+  }
+
+  @NotNull
+  public BotProperties get() {
+    return current.get();
+  }
+
+  @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+  void reloadIfChanged() {
+    FileTime modified = readLastModified();
+    if (Objects.equals(modified, lastModified)) {
+      return;
+    }
+    lastModified = modified;
+    reload();
+  }
+
+  /**
+   * Bindet die Einstellungen neu und übernimmt sie, wenn sie gültig sind.
+   */
+  public void reload() {
+    BotProperties reloaded;
+    try {
+      reloaded = bind();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not reload bot settings from {}", configFile, e);
+      return;
+    }
+
+    Set<ConstraintViolation<BotProperties>> violations = validator.validate(reloaded);
+    if (!violations.isEmpty()) {
+      log.warn("Ignoring invalid bot settings from {}: {}", configFile, violations);
+      return;
+    }
+
+    current.set(reloaded);
+    log.info("Reloaded bot settings from {}", configFile);
+  }
+
+  @NotNull
+  private BotProperties bind() throws IOException {
+    List<PropertySource<?>> sources = new ArrayList<>();
+    int importIndex = -1;
+    int configIndex = -1;
+
+    for (PropertySource<?> source : environment.getPropertySources()) {
+      if (isImportedConfigFile(source)) {
+        importIndex = importIndex < 0 ? sources.size() : importIndex;
+        continue;
+      }
+      if (configIndex < 0 && source.getName().startsWith(CONFIG_RESOURCE)) {
+        configIndex = sources.size();
+      }
+      sources.add(source);
+    }
+
+    // Die frisch gelesene Datei ersetzt den beim Start importierten Stand an dessen Position.
+    // So fallen entfernte Schlüssel auf die Defaults der application.yml zurück, während
+    // Umgebungsvariablen und System Properties weiterhin Vorrang haben. Gab es die Datei beim
+    // Start noch nicht, landet sie wie ein Import direkt vor der application.yml.
+    if (Files.isRegularFile(configFile)) {
+      int index = importIndex >= 0 ? importIndex : configIndex;
+      sources.addAll(index >= 0 ? index : sources.size(), new YamlPropertySourceLoader()
+          .load(configFile.toString(), new FileSystemResource(configFile)));
+    }
+
+    Binder binder = new Binder(ConfigurationPropertySources.from(sources),
+        new PropertySourcesPlaceholdersResolver(sources));
+    return binder.bindOrCreate(PREFIX, BotProperties.class);
+  }
+
+  /**
+   * Erkennt die Property Source, die {@code spring.config.import} beim Start aus der Datei
+   * angelegt hat. Ihr Name lautet {@code Config resource '...' via location '...'}.
+   */
+  private boolean isImportedConfigFile(@NotNull PropertySource<?> source) {
+    String name = source.getName();
+    return name.startsWith(CONFIG_RESOURCE) && name.contains(configFileLocation);
+  }
+
+  @Nullable
+  private FileTime readLastModified() {
+    try {
+      return Files.isRegularFile(configFile) ? Files.getLastModifiedTime(configFile) : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
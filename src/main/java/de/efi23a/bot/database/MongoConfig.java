@@ -2,35 +2,50 @@ package de.efi23a.bot.database;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
+import de.efi23a.bot.config.BotProperties;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+/**
+ * Konfiguriert den einzigen MongoClient der Anwendung. Repositories und das Alert Feature nutzen
+ * denselben Client und damit denselben Connection Pool.
+ */
 @Configuration
+@RequiredArgsConstructor
 @EnableMongoRepositories(basePackages = "de.efi23a.bot.database.repository")
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
-  private static final String DATABASE_ENV_VARIABLE = "DATABASE";
-  private static final String CONNECTION_STRING_ENV_VARIABLE = "CONNECTION_STRING";
+  private final BotProperties properties;
+  private final MongoPoolMetrics poolMetrics;
 
   @Override
   protected String getDatabaseName() {
-    return System.getenv(DATABASE_ENV_VARIABLE);
+    return properties.mongo().database();
   }
 
   @Override
-  public MongoClient mongoClient() {
-    ConnectionString connectionString =
-        new ConnectionString(System.getenv(CONNECTION_STRING_ENV_VARIABLE));
-    MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-        .applyConnectionString(connectionString)
-        .build();
+  protected void configureClientSettings(MongoClientSettings.Builder builder) {
+    BotProperties.Mongo mongo = properties.mongo();
+    BotProperties.Mongo.Pool pool = mongo.pool();
 
-    return MongoClients.create(mongoClientSettings);
+    // Der Connection String kommt zuletzt, damit dort gesetzte Optionen wie maxPoolSize oder
+    // socketTimeoutMS Vorrang vor den Defaults aus den Properties behalten
+    builder.applyToConnectionPoolSettings(settings -> settings
+            .maxSize(pool.maxSize())
+            .minSize(pool.minSize())
+            .maxWaitTime(pool.maxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+            .maxConnectionIdleTime(pool.maxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+            .addConnectionPoolListener(poolMetrics))
+        .applyToSocketSettings(settings -> settings
+            .connectTimeout(Math.toIntExact(mongo.connectTimeout().toMillis()),
+                TimeUnit.MILLISECONDS)
+            .readTimeout(Math.toIntExact(mongo.readTimeout().toMillis()), TimeUnit.MILLISECONDS))
+        .applyConnectionString(new ConnectionString(mongo.connectionString()));
   }
 
   @Override
@@ -0,0 +1,70 @@
+package de.efi23a.bot.database;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zählt die Ereignisse des Connection Pools des gemeinsamen MongoClients.
+ */
+@Component
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger checkedOut = new AtomicInteger();
+  private final AtomicInteger waitQueueSize = new AtomicInteger();
+  private final AtomicLong checkOutFailures = new AtomicLong();
+
+  @Override
+  public void connectionCreated(ConnectionCreatedEvent event) {
+    size.incrementAndGet();
+  }
+
+  @Override
+  public void connectionClosed(ConnectionClosedEvent event) {
+    size.decrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+    waitQueueSize.incrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+    waitQueueSize.decrementAndGet();
+    checkedOut.incrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+    waitQueueSize.decrementAndGet();
+    checkOutFailures.incrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+    checkedOut.decrementAndGet();
+  }
+
+  @NotNull
+  public Snapshot snapshot() {
+    return new Snapshot(size.get(), checkedOut.get(), waitQueueSize.get(),
+        checkOutFailures.get());
+  }
+
+  /**
+   * Momentaufnahme des Pools: offene und ausgeliehene Verbindungen, wartende Anfragen und
+   * fehlgeschlagene Ausleihen seit dem Start.
+   */
+  public record Snapshot(int size, int checkedOut, int waitQueueSize, long checkOutFailures) {
+  }
+}
@@ -0,0 +1,22 @@
+package de.efi23a.bot.database.controller;
+
+import de.efi23a.bot.database.MongoPoolMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class MongoPoolController {
+
+  // TODO: add auth for every endpoint
+
+  private final MongoPoolMetrics poolMetrics;
+
+  @GetMapping("/metrics/mongo-pool")
+  MongoPoolMetrics.Snapshot getPoolMetrics() {
+    return poolMetrics.snapshot();
+  }
+
+}
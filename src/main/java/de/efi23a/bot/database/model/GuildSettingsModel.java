@@ -0,0 +1,27 @@
+package de.efi23a.bot.database.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Document("guild_settings")
+public class GuildSettingsModel {
+
+  @Id
+  private String guildId;
+
+  private String alertChannelId;
+  private String alertRoleId;
+  private String mailChannelId;
+  private String mailUrl;
+  private String feedToken;
+
+  public GuildSettingsModel(String guildId) {
+    this.guildId = guildId;
+  }
+}
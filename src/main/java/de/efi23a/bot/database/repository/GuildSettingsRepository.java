@@ -0,0 +1,8 @@
+package de.efi23a.bot.database.repository;
+
+import de.efi23a.bot.database.model.GuildSettingsModel;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface GuildSettingsRepository extends MongoRepository<GuildSettingsModel, String> {
+
+}
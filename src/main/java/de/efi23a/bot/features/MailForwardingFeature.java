@@ -1,5 +1,10 @@
 package de.efi23a.bot.features;
 
+import de.efi23a.bot.database.model.GuildSettingsModel;
+import de.efi23a.bot.gateway.Gateway;
+import de.efi23a.bot.guild.GuildPartitioner;
+import de.efi23a.bot.guild.GuildSettingsProvider;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.Address;
 import jakarta.mail.BodyPart;
 import jakarta.mail.Flags;
@@ -12,58 +17,144 @@ import jakarta.mail.URLName;
 import jakarta.mail.internet.MimeMultipart;
 import jakarta.mail.search.FlagTerm;
 import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import org.jetbrains.annotations.ApiStatus;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Leitet neue Mails aus dem Postfach einer Guild in ihren Mail-Kanal weiter.
+ *
+ * <p>Die Postfächer werden von Guild-Admins gesetzt. Deshalb läuft jede Guild mit Timeouts auf
+ * einem eigenen, begrenzten Pool statt auf dem Scheduler-Thread, den sich alle
+ * {@code @Scheduled} Tasks teilen. Erlaubt sind nur IMAP URLs auf öffentliche Hosts.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MailForwardingFeature {
 
   private static final String INBOX_FOLDER = "INBOX";
+  private static final int MAIL_THREADS = 4;
+  private static final String MAIL_TIMEOUT = String.valueOf(TimeUnit.SECONDS.toMillis(15));
+  private static final Set<String> MAIL_PROTOCOLS = Set.of("imap", "imaps");
+  private static final Set<Integer> MAIL_PORTS = Set.of(-1, 143, 993);
+
+  private final Gateway gateway;
+  private final GuildSettingsProvider settingsProvider;
+  private final GuildPartitioner partitioner;
+  private final AtomicLong ticks = new AtomicLong();
+  private final ExecutorService executor = Executors.newFixedThreadPool(MAIL_THREADS);
+  private final Set<String> runningGuilds = ConcurrentHashMap.newKeySet();
+
+  @PreDestroy
+  void preDestroy() {
+    executor.shutdownNow();
+  }
 
-  private static final String MAIL_URL_VARIABLE = "MAIL_URL";
-
-  private static final String MAIL_CHANNEL_ID = "MAIL_CHANNEL_ID";
-  private final JDA jda;
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  private void runScheduledTask() {
+    List<String> guildIds = partitioner.dueGuilds(gateway.getGuildIds(), ticks.getAndIncrement());
+    if (guildIds.isEmpty()) {
+      return;
+    }
 
-  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
-  private void runScheduledTask() throws MessagingException, IOException {
-    log.info("Running mail task");
+    log.info("Running mail task for {} guilds", guildIds.size());
 
-    String mailChannelId = fetchMailChannelId();
-    String url = fetchMailUrl();
+    Session session = createSession();
+    for (GuildSettingsModel settings : settingsProvider.getSettings(guildIds).values()) {
+      // Eine Guild, deren Postfach noch vom letzten Durchlauf hängt, wird nicht erneut eingereiht
+      if (runningGuilds.add(settings.getGuildId())) {
+        executor.execute(() -> runGuild(session, settings));
+      }
+    }
+  }
 
-    if (mailChannelId == null) {
-      throw new IllegalStateException("Mail channel id is null");
+  private void runGuild(@NotNull Session session, @NotNull GuildSettingsModel settings) {
+    try {
+      forwardGuildMails(session, settings);
+    } catch (MessagingException | IOException | RuntimeException e) {
+      log.warn("Mail forwarding failed for guild {}", settings.getGuildId(), e);
+    } finally {
+      runningGuilds.remove(settings.getGuildId());
     }
+  }
+
+  /**
+   * Prüft, ob eine Guild diese URL als Postfach nutzen darf: nur {@code imap} oder {@code imaps}
+   * auf den Standard-Ports und nur Hosts, die nicht ins lokale oder private Netz zeigen.
+   */
+  public boolean isAllowedMailUrl(@Nullable String url) {
     if (url == null) {
-      throw new IllegalStateException("Mail url is null");
+      return false;
+    }
+    try {
+      URLName urlName = new URLName(url);
+      String host = urlName.getHost();
+      if (urlName.getProtocol() == null || host == null || host.isEmpty()
+          || !MAIL_PROTOCOLS.contains(urlName.getProtocol().toLowerCase(Locale.ROOT))
+          || !MAIL_PORTS.contains(urlName.getPort())) {
+        return false;
+      }
+      for (InetAddress address : InetAddress.getAllByName(host)) {
+        if (isInternalAddress(address)) {
+          return false;
+        }
+      }
+      return true;
+    } catch (UnknownHostException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private boolean isInternalAddress(@NotNull InetAddress address) {
+    // fc00::/7 (Unique Local) deckt isSiteLocal() nicht ab
+    boolean uniqueLocal = address instanceof Inet6Address
+        && (address.getAddress()[0] & 0xfe) == 0xfc;
+    return address.isAnyLocalAddress() || address.isLoopbackAddress()
+        || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+        || address.isMulticastAddress() || uniqueLocal;
+  }
+
+  private void forwardGuildMails(@NotNull Session session, @NotNull GuildSettingsModel settings)
+      throws MessagingException, IOException {
+    String mailChannelId = settings.getMailChannelId();
+    String url = settings.getMailUrl();
+
+    if (mailChannelId == null || url == null) {
+      return;
     }
 
-    TextChannel textChannel = jda.getTextChannelById(mailChannelId);
+    TextChannel textChannel = gateway.getTextChannel(settings.getGuildId(), mailChannelId);
     if (textChannel == null) {
       throw new IllegalStateException("Invalid mail channel id");
     }
+    // Erneut prüfen, da sich die Adresse des Hosts seit /settings mail geändert haben kann
+    if (!isAllowedMailUrl(url)) {
+      throw new IllegalStateException("Mail url is not allowed");
+    }
 
-    handleMailForwarding(createSession(), url, textChannel);
-
-    log.info("Finished mail task");
+    handleMailForwarding(session, url, textChannel);
   }
 
   //<editor-fold desc="Mail Logik">
@@ -111,36 +202,42 @@ public class MailForwardingFeature {
     Properties properties = new Properties();
     properties.put("mail.store.protocol", "imap");
     properties.put("mail.imap.starttls.enable", "true");
+    for (String protocol : MAIL_PROTOCOLS) {
+      properties.put("mail." + protocol + ".connectiontimeout", MAIL_TIMEOUT);
+      properties.put("mail." + protocol + ".timeout", MAIL_TIMEOUT);
+      properties.put("mail." + protocol + ".writetimeout", MAIL_TIMEOUT);
+    }
     return properties;
   }
   //</editor-fold>
 
-  //<editor-fold desc="Environment Variables">
-
-  @Nullable
-  @Contract(pure = true)
-  public String fetchMailUrl() {
-    return System.getenv(MAIL_URL_VARIABLE);
-  }
-
-  @Nullable
-  @Contract(pure = true)
-  public String fetchMailChannelId() {
-    return System.getenv(MAIL_CHANNEL_ID);
-  }
-  //</editor-fold>
-
   //<editor-fold desc="Embed Building">
 
   @NotNull
   public MessageEmbed buildEmbed(@NotNull Message message) throws MessagingException, IOException {
     return new EmbedBuilder()
-        .setTitle(message.getSubject())
-        .setAuthor(buildAddressString(message.getFrom()))
-        .setDescription(buildBody(message))
+        .setTitle(truncate(message.getSubject(), MessageEmbed.TITLE_MAX_LENGTH))
+        .setAuthor(truncate(buildAddressString(message.getFrom()), MessageEmbed.AUTHOR_MAX_LENGTH))
+        .setDescription(truncate(buildBody(message), MessageEmbed.DESCRIPTION_MAX_LENGTH))
         .build();
   }
 
+  /**
+   * Kürzt Texte auf die Limits von Discord, sonst wirft der {@link EmbedBuilder}.
+   */
+  @Nullable
+  private String truncate(@Nullable String value, int maxLength) {
+    if (value == null || value.length() <= maxLength) {
+      return value;
+    }
+    int end = maxLength - 1;
+    // Keine Surrogate-Paare (z.B. Emojis) zerteilen
+    if (Character.isHighSurrogate(value.charAt(end - 1))) {
+      end--;
+    }
+    return value.substring(0, end) + "…";
+  }
+
   @NotNull
   private String buildAddressString(@NotNull Address[] addresses) {
     return Arrays.stream(addresses)
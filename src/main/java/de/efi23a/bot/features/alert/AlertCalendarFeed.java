@@ -0,0 +1,200 @@
+package de.efi23a.bot.features.alert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Rendert die Erinnerungen einer Guild als iCalendar Feed und hält das Ergebnis im Speicher.
+ *
+ * <p>Jedes VEVENT wird pro Erinnerung gecached, der zusammengesetzte Feed samt ETag pro Guild
+ * bis zur nächsten Änderung. Kalender-Clients, die den Feed abfragen, kosten so nur einen
+ * Map-Zugriff.
+ *
+ * <p>Invalidiert wird nur im eigenen Prozess. Damit ein Feed nicht dauerhaft veraltet, wenn eine
+ * Guild den Pod wechselt oder ein anderer Prozess ihre Erinnerungen ändert, wird er zusätzlich
+ * nach {@link #FEED_TTL} neu aufgebaut. Bei unverändertem Inhalt bleibt der ETag gleich.
+ */
+@Component
+public class AlertCalendarFeed {
+
+  private static final String CRLF = "\r\n";
+  private static final int MAX_LINE_OCTETS = 75;
+  private static final Duration FEED_TTL = Duration.ofMinutes(5);
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+  private static final DateTimeFormatter STAMP_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  private final Map<Object, CachedEvent> events = new ConcurrentHashMap<>();
+  private final Map<String, CachedFeed> feeds = new ConcurrentHashMap<>();
+
+  /**
+   * Liefert den aktuellen Feed und baut ihn bei Bedarf aus den übergebenen Erinnerungen neu auf.
+   */
+  @NotNull
+  public Feed getFeed(@NotNull String guildId, @NotNull Supplier<Iterable<Document>> alerts) {
+    CachedFeed cached = feeds.get(guildId);
+    if (cached != null && !cached.isExpired()) {
+      return cached.feed();
+    }
+    return feeds.compute(guildId, (id, current) -> current != null && !current.isExpired()
+        ? current : new CachedFeed(buildFeed(alerts.get()), Instant.now())).feed();
+  }
+
+  /**
+   * Verwirft den gecachten Feed und, falls angegeben, das VEVENT der geänderten Erinnerung.
+   */
+  public void invalidate(@NotNull String guildId, @Nullable Object alertId) {
+    if (alertId != null) {
+      events.remove(alertId);
+    }
+    feeds.remove(guildId);
+  }
+
+  @NotNull
+  private Feed buildFeed(@NotNull Iterable<Document> alerts) {
+    StringBuilder builder = new StringBuilder()
+        .append("BEGIN:VCALENDAR").append(CRLF)
+        .append("VERSION:2.0").append(CRLF)
+        .append("PRODID:-//EFI23a//Discord Bot//DE").append(CRLF)
+        .append("CALSCALE:GREGORIAN").append(CRLF)
+        .append("X-WR-CALNAME:Erinnerungen").append(CRLF);
+
+    for (Document alert : alerts) {
+      builder.append(getEvent(alert));
+    }
+
+    builder.append("END:VCALENDAR").append(CRLF);
+
+    String body = builder.toString();
+    String etag = DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8));
+    return new Feed(body, etag);
+  }
+
+  /**
+   * Liefert das gecachte VEVENT, solange es aus denselben Feldern gerendert wurde. So kann ein
+   * Rebuild, der parallel zu einer Änderung läuft, kein veraltetes VEVENT dauerhaft hinterlassen.
+   */
+  @NotNull
+  private String getEvent(@NotNull Document alert) {
+    List<Object> content = Arrays.asList(alert.get("name"), alert.get("date"),
+        alert.get("description"), alert.get("createdBy"));
+    CachedEvent cached = events.get(alert.get("_id"));
+    if (cached != null && cached.content().equals(content)) {
+      return cached.rendered();
+    }
+
+    String rendered = renderEvent(alert);
+    events.put(alert.get("_id"), new CachedEvent(content, rendered));
+    return rendered;
+  }
+
+  @NotNull
+  private String renderEvent(@NotNull Document alert) {
+    Object id = alert.get("_id");
+    Date created = id instanceof ObjectId objectId ? objectId.getDate() : alert.getDate("date");
+
+    StringBuilder builder = new StringBuilder();
+    appendLine(builder, "BEGIN:VEVENT");
+    appendLine(builder, "UID:" + id + "@efi23a-bot");
+    appendLine(builder, "DTSTAMP:" + STAMP_FORMAT.format(created.toInstant()));
+    LocalDate date = toLocalDate(alert.getDate("date"));
+    appendLine(builder, "DTSTART;VALUE=DATE:" + DATE_FORMAT.format(date));
+    appendLine(builder, "DTEND;VALUE=DATE:" + DATE_FORMAT.format(date.plusDays(1)));
+    appendLine(builder, "SUMMARY:" + escape(alert.getString("name")));
+    appendLine(builder, "DESCRIPTION:" + escape(alert.getString("description")));
+    appendLine(builder, "ORGANIZER;CN=\"" + quote(alert.getString("createdBy"))
+        + "\":noreply@efi23a");
+    appendLine(builder, "END:VEVENT");
+    return builder.toString();
+  }
+
+  @NotNull
+  private LocalDate toLocalDate(@NotNull Date date) {
+    return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+  }
+
+  /**
+   * Hängt eine Zeile an und faltet sie nach RFC 5545 bei 75 Oktetts in UTF-8, ohne ein Zeichen
+   * (etwa Umlaute oder Emojis) zu zerteilen.
+   */
+  private void appendLine(@NotNull StringBuilder builder, @NotNull String line) {
+    int octets = 0;
+    for (int i = 0; i < line.length(); ) {
+      int codePoint = line.codePointAt(i);
+      int length = utf8Length(codePoint);
+      if (octets + length > MAX_LINE_OCTETS) {
+        builder.append(CRLF).append(' ');
+        // Folgezeilen beginnen mit einem Leerzeichen, das mitgezählt wird
+        octets = 1;
+      }
+      builder.appendCodePoint(codePoint);
+      octets += length;
+      i += Character.charCount(codePoint);
+    }
+    builder.append(CRLF);
+  }
+
+  private int utf8Length(int codePoint) {
+    if (codePoint < 0x80) {
+      return 1;
+    }
+    if (codePoint < 0x800) {
+      return 2;
+    }
+    return codePoint < 0x10000 ? 3 : 4;
+  }
+
+  @NotNull
+  private String escape(@Nullable String value) {
+    if (value == null) {
+      return "";
+    }
+    return value.replace("\\", "\\\\")
+        .replace(";", "\\;")
+        .replace(",", "\\,")
+        .replace("\r\n", "\\n")
+        .replace("\n", "\\n");
+  }
+
+  /**
+   * Parameterwerte wie {@code CN} werden in Anführungszeichen gesetzt statt wie Text escaped,
+   * RFC 5545 erlaubt darin keine weiteren Anführungszeichen.
+   */
+  @NotNull
+  private String quote(@Nullable String value) {
+    return value == null ? "" : value.replace("\"", "");
+  }
+
+  private record CachedFeed(Feed feed, Instant builtAt) {
+
+    private boolean isExpired() {
+      return builtAt.plus(FEED_TTL).isBefore(Instant.now());
+    }
+  }
+
+  private record CachedEvent(List<Object> content, String rendered) {
+  }
+
+  /**
+   * Ein fertig gerenderter Feed mit seinem ETag.
+   */
+  public record Feed(String body, String etag) {
+  }
+}
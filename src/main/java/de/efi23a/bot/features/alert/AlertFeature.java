@@ -1,24 +1,51 @@
 package de.efi23a.bot.features.alert;
 
+import static com.mongodb.client.model.Accumulators.push;
+import static com.mongodb.client.model.Accumulators.sum;
+import static com.mongodb.client.model.Aggregates.group;
+import static com.mongodb.client.model.Aggregates.match;
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
-
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.FindIterable;
-import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import de.efi23a.bot.database.MongoConfig;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import de.efi23a.bot.config.BotProperties;
+import de.efi23a.bot.config.BotSettings;
+import de.efi23a.bot.database.model.GuildSettingsModel;
+import de.efi23a.bot.gateway.Gateway;
+import de.efi23a.bot.guild.GuildPartitioner;
+import de.efi23a.bot.guild.GuildSettingsProvider;
 import jakarta.annotation.PostConstruct;
 import java.awt.Color;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
@@ -26,37 +53,81 @@ import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AlertFeature {
 
-  private static final String ALERT_CHANNEL_ID = "ALERT_CHANNEL_ID";
-  private static final String ALERT_ROLE_ID = "ALERT_ROLE_ID";
-  private static final String ALERT_FIRST_REMINDER = "ALERT_FIRST_REMINDER";
-  private static final String ALERT_LAST_REMINDER = "ALERT_LAST_REMINDER";
+  private static final String NAME_INDEX = "guildId_1_name_1";
 
-  private final JDA jda;
-  private final MongoConfig mongoConfig;
-  private MongoClient client;
-  private MongoDatabase db;
+  private final Gateway gateway;
+  private final MongoTemplate mongoTemplate;
+  private final BotSettings botSettings;
+  private final AlertCalendarFeed calendarFeed;
+  private final GuildSettingsProvider settingsProvider;
+  private final GuildPartitioner partitioner;
+  private final AtomicLong ticks = new AtomicLong();
   private MongoCollection<Document> alerts;
   private final SimpleDateFormat sdf = new SimpleDateFormat("dd.MM.yyyy");
 
   @PostConstruct
   void postConstruct() {
-    client = mongoConfig.mongoClient();
-    db = client.getDatabase(System.getenv("DATABASE"));
-    alerts = db.getCollection("alerts");
+    alerts = mongoTemplate.getCollection("alerts");
+    migrateLegacyAlerts();
+    createNameIndex();
 
     registerAlertCommand();
     startAlertCheckerTask();
   }
 
+  /**
+   * Ordnet Erinnerungen ohne Guild der Guild der alten, globalen Konfiguration zu.
+   */
+  private void migrateLegacyAlerts() {
+    String legacyGuildId = settingsProvider.getLegacyGuildId();
+    if (legacyGuildId != null) {
+      alerts.updateMany(Filters.exists("guildId", false), set("guildId", legacyGuildId));
+    }
+  }
+
+  /**
+   * Erinnerungen werden über Guild und Name angesprochen, der Index erzwingt daher eindeutige
+   * Namen pro Guild. Bereits vorhandene Duplikate werden vorher umbenannt, ein alter, nicht
+   * eindeutiger Index wird ersetzt.
+   */
+  private void createNameIndex() {
+    for (Document index : alerts.listIndexes()) {
+      if (NAME_INDEX.equals(index.getString("name")) && !index.getBoolean("unique", false)) {
+        alerts.dropIndex(NAME_INDEX);
+      }
+    }
+
+    for (Document duplicate : alerts.aggregate(List.of(
+        group(new Document("guildId", "$guildId").append("name", "$name"),
+            push("ids", "$_id"), sum("count", 1)),
+        match(gt("count", 1))))) {
+      Document key = duplicate.get("_id", Document.class);
+      List<Object> ids = duplicate.getList("ids", Object.class);
+      for (int i = 1; i < ids.size(); i++) {
+        String name = key.getString("name") + " (" + (i + 1) + ")";
+        alerts.updateOne(eq("_id", ids.get(i)), set("name", name));
+        log.warn("Renamed duplicate alert '{}' of guild {} to '{}'", key.getString("name"),
+            key.getString("guildId"), name);
+      }
+    }
+
+    alerts.createIndex(Indexes.ascending("guildId", "name"),
+        new IndexOptions().name(NAME_INDEX).unique(true));
+  }
+
   private void registerAlertCommand() {
     SlashCommandData cmd = Commands.slash("alert", "Verwalte die Erinnerungen.")
+        .setGuildOnly(true)
         .addSubcommands(
             new SubcommandData("info", "Zeigt alle Details zu einer Erinnerung.")
                 .addOption(OptionType.STRING, "name", "Name der Erinnerung", true),
@@ -68,6 +139,8 @@ public class AlertFeature {
                     true)
                 .addOption(OptionType.STRING, "description", "Beschreibung für die Erinnerung.",
                     true),
+            new SubcommandData("import", "Importiere Erinnerungen aus einer .ics oder .csv Datei.")
+                .addOption(OptionType.ATTACHMENT, "file", "Die zu importierende Datei.", true),
             new SubcommandData("remove", "Entferne eine Erinnerung.")
                 .addOption(OptionType.STRING, "name", "Name der Erinnerung", true),
             new SubcommandData("edit", "Ändere eine Erinnerung")
@@ -84,105 +157,204 @@ public class AlertFeature {
                 .addOption(OptionType.STRING, "value", "Der neue Wert.", true)
         );
 
-    jda.updateCommands().addCommands(cmd).queue();
+    gateway.upsertCommand(cmd).queue();
   }
 
-  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
   private void startAlertCheckerTask() {
-    FindIterable<Document> alerts = getAlerts();
+    List<String> guildIds = partitioner.dueGuilds(gateway.getGuildIds(), ticks.getAndIncrement());
+    if (guildIds.isEmpty()) {
+      return;
+    }
 
-    for (var alert : alerts) {
-      Duration alertDate = Duration.between(Instant.now(), alert.getDate("date").toInstant());
-      Date lastReminder = getAlertLastReminder(alert);
-      int firstReminderHours = Integer.parseInt(System.getenv(ALERT_FIRST_REMINDER));
-      int lastReminderHours = Integer.parseInt(System.getenv(ALERT_LAST_REMINDER));
+    Map<String, GuildSettingsModel> settings = settingsProvider.getSettings(guildIds);
+    BotProperties.Alert reminders = botSettings.get().alert();
+    FindIterable<Document> alerts = this.alerts.find(in("guildId", guildIds));
 
-      processAlert(alert, alertDate, lastReminder, firstReminderHours, lastReminderHours);
+    for (var alert : alerts) {
+      // Eine fehlerhafte Erinnerung darf die übrigen Guilds im Bucket nicht aufhalten
+      try {
+        Duration alertDate = Duration.between(Instant.now(), alert.getDate("date").toInstant());
+        Date lastReminder = getAlertLastReminder(alert);
+
+        processAlert(alert, settings.get(alert.getString("guildId")), alertDate, lastReminder,
+            reminders.firstReminder(), reminders.lastReminder());
+      } catch (RuntimeException e) {
+        log.warn("Processing alert '{}' failed for guild {}", alert.get("name"),
+            alert.get("guildId"), e);
+      }
     }
   }
 
   private void processAlert(Document alert,
+                            @Nullable GuildSettingsModel settings,
                             Duration alertDate,
-                            Date lastReminder,
+                            @Nullable Date lastReminder,
                             int firstReminderHours,
                             int lastReminderHours) {
-    if ((alertDate.get(ChronoUnit.SECONDS) / 60 / 60) < lastReminderHours
-        && lastReminder == null
-        || (Duration.between(Instant.now(), lastReminder.toInstant())
-        .getSeconds() / 60 / 60) > lastReminderHours) {
-      alert.replace("lastReminder", Instant.now());
-      updateAlert(alert);
-      sendAlert(alert);
+    if (alertDate.toHours() < -36) {
+      removeAlert(alert.getString("guildId"), alert.getString("name"));
+      return;
+    }
+    if (alertDate.isNegative()) {
       return;
     }
 
-    if (Duration.between(Instant.now(), lastReminder.toInstant())
-        .getSeconds() / 60 / 60 > firstReminderHours) {
-      alert.replace("lastReminder", Instant.now());
-      updateAlert(alert);
-      sendAlert(alert);
+    // Erinnert einmal beim Eintritt in das erste und einmal beim Eintritt in das letzte Fenster
+    Instant now = Instant.now();
+    Instant alertAt = alert.getDate("date").toInstant();
+    Instant firstWindow = alertAt.minus(Duration.ofHours(firstReminderHours));
+    Instant lastWindow = alertAt.minus(Duration.ofHours(lastReminderHours));
+
+    boolean firstReminderDue = lastReminder == null && now.isAfter(firstWindow);
+    boolean lastReminderDue = now.isAfter(lastWindow)
+        && (lastReminder == null || lastReminder.toInstant().isBefore(lastWindow));
+
+    if (!firstReminderDue && !lastReminderDue) {
       return;
     }
 
-    if ((alertDate.getSeconds() / 60 / 60) < -36) {
-      removeAlert(alert.getString("name"));
+    // Ohne zustellbaren Kanal bleibt lastReminder unverändert, damit nichts verloren geht
+    TextChannel channel = resolveAlertChannel(settings);
+    if (channel == null) {
+      return;
     }
+
+    updateLastReminder(alert.get("_id"), Date.from(now));
+    sendAlert(alert, settings, channel);
   }
 
-  public boolean exists(String name) {
-    return alerts.find(eq("name", name)).first() != null;
+  public boolean exists(String guildId, String name) {
+    return alerts.find(byName(guildId, name)).first() != null;
   }
 
-  public void addAlert(String name, Date date, String description, String createdBy) {
+  /**
+   * Speichert eine neue Erinnerung.
+   *
+   * @return {@code false}, wenn es den Namen in der Guild bereits gibt
+   */
+  public boolean addAlert(String guildId, String name, Date date, String description,
+                          String createdBy) {
+    try {
+      alerts.insertOne(createAlertDocument(guildId, name, date, description, createdBy));
+    } catch (MongoException e) {
+      if (isDuplicateKey(e.getCode())) {
+        return false;
+      }
+      throw e;
+    }
+    calendarFeed.invalidate(guildId, null);
+    return true;
+  }
+
+  /**
+   * Speichert mehrere Erinnerungen mit einem einzigen, ungeordneten {@code insertMany}. Namen,
+   * die parallel angelegt wurden, scheitern am eindeutigen Index und werden übersprungen.
+   *
+   * @return Anzahl der gespeicherten Erinnerungen
+   */
+  public int addAlerts(String guildId, List<Document> documents) {
+    if (documents.isEmpty()) {
+      return 0;
+    }
+    int inserted;
+    try {
+      inserted = alerts.insertMany(documents, new InsertManyOptions().ordered(false))
+          .getInsertedIds().size();
+    } catch (MongoBulkWriteException e) {
+      if (!e.getWriteErrors().stream().map(BulkWriteError::getCode)
+          .allMatch(this::isDuplicateKey)) {
+        throw e;
+      }
+      inserted = e.getWriteResult().getInsertedCount();
+    }
+    calendarFeed.invalidate(guildId, null);
+    return inserted;
+  }
+
+  Document createAlertDocument(String guildId, String name, Date date, String description,
+                               String createdBy) {
     Document document = new Document();
 
+    document.put("guildId", guildId);
     document.put("name", name);
     document.put("date", date);
     document.put("description", description);
     document.put("createdBy", createdBy);
     document.put("lastReminder", null);
 
-    alerts.insertOne(document);
+    return document;
   }
 
-  private void updateAlert(Document updatedAlert) {
-    Bson filter = eq("_id", updatedAlert.get("_id"));
+  /**
+   * Setzt nur {@code lastReminder}. Ein {@code replaceOne} mit dem zu Beginn des Ticks gelesenen
+   * Dokument würde ein zwischenzeitliches {@code /alert edit} rückgängig machen.
+   */
+  private void updateLastReminder(Object id, Date lastReminder) {
+    alerts.updateOne(eq("_id", id), set("lastReminder", lastReminder));
+  }
 
-    if (alerts.find(filter).first() != null) {
-      alerts.replaceOne(filter, updatedAlert);
+  /**
+   * Ändert eine Eigenschaft einer Erinnerung.
+   *
+   * @return {@code false}, wenn der neue Name in der Guild bereits vergeben ist
+   */
+  public boolean editAlert(String guildId, String name, String property, Object value) {
+    Bson update = property.equalsIgnoreCase("date")
+        ? combine(set(property, value), set("lastReminder", null))
+        : set(property, value);
+
+    Document doc;
+    try {
+      doc = alerts.findOneAndUpdate(byName(guildId, name), update);
+    } catch (MongoException e) {
+      if (isDuplicateKey(e.getCode())) {
+        return false;
+      }
+      throw e;
     }
+    if (doc != null) {
+      calendarFeed.invalidate(guildId, doc.get("_id"));
+    }
+    return true;
   }
 
-  public void editAlert(String name, String property, Object value) {
-    Bson filter = eq("name", name);
-
-    if (exists(name)) {
-      Document doc = alerts.find(filter).first();
-      doc.replace(property, value);
+  public void removeAlert(String guildId, String name) {
+    Document removed = alerts.findOneAndDelete(byName(guildId, name));
+    if (removed != null) {
+      calendarFeed.invalidate(guildId, removed.get("_id"));
+    }
+  }
 
-      if (property.equalsIgnoreCase("date")) {
-        doc.replace("lastReminder", null);
-      }
+  public FindIterable<Document> getAlerts(String guildId) {
+    return alerts.find(eq("guildId", guildId));
+  }
 
-      alerts.replaceOne(filter, doc);
+  /**
+   * Lädt die Namen aller Erinnerungen mit einer einzigen Abfrage.
+   */
+  public Set<String> getAlertNames(String guildId) {
+    Set<String> names = new HashSet<>();
+    for (Document alert : alerts.find(eq("guildId", guildId)).projection(include("name"))) {
+      names.add(alert.getString("name"));
     }
+    return names;
   }
 
-  public void removeAlert(String name) {
-    if (exists(name)) {
-      alerts.deleteOne(eq("name", name));
-    }
+  public AlertCalendarFeed.Feed getCalendarFeed(String guildId) {
+    return calendarFeed.getFeed(guildId, () -> getAlerts(guildId));
   }
 
-  public FindIterable<Document> getAlerts() {
-    return alerts.find();
+  private Document getAlertByName(String guildId, String name) {
+    return alerts.find(byName(guildId, name)).first();
   }
 
-  private Document getAlertByName(String name) {
-    if (exists(name)) {
-      return alerts.find(eq("name", name)).first();
-    }
-    return null;
+  private boolean isDuplicateKey(int code) {
+    return ErrorCategory.fromErrorCode(code) == ErrorCategory.DUPLICATE_KEY;
+  }
+
+  private Bson byName(String guildId, String name) {
+    return and(eq("guildId", guildId), eq("name", name));
   }
 
   private Date getAlertLastReminder(Document document) {
@@ -190,7 +362,15 @@ public class AlertFeature {
     return date != null ? date : null;
   }
 
-  private void sendAlert(Document alert) {
+  @Nullable
+  private TextChannel resolveAlertChannel(@Nullable GuildSettingsModel settings) {
+    if (settings == null || settings.getAlertChannelId() == null) {
+      return null;
+    }
+    return gateway.getTextChannel(settings.getGuildId(), settings.getAlertChannelId());
+  }
+
+  private void sendAlert(Document alert, GuildSettingsModel settings, TextChannel channel) {
     MessageEmbed embed = new EmbedBuilder()
         .setColor(Color.ORANGE)
         .setTitle("Erinnerung")
@@ -200,15 +380,17 @@ public class AlertFeature {
         .setFooter("Hinzugefügt von " + alert.getString("createdBy"))
         .build();
 
-    jda.getTextChannelById(Long.parseLong(System.getenv(ALERT_CHANNEL_ID)))
-        .sendMessage("||"
-            + jda.getRoleById(Long.parseLong(System.getenv(ALERT_ROLE_ID))).getAsMention()
-            + "||")
-        .setEmbeds(embed).queue();
+    Role role = settings.getAlertRoleId() != null
+        ? gateway.getRole(settings.getGuildId(), settings.getAlertRoleId()) : null;
+    if (role == null) {
+      channel.sendMessageEmbeds(embed).queue();
+      return;
+    }
+    channel.sendMessage("||" + role.getAsMention() + "||").setEmbeds(embed).queue();
   }
 
-  public MessageEmbed getAlertEmbedMessage(String name) {
-    Document alert = getAlertByName(name);
+  public MessageEmbed getAlertEmbedMessage(String guildId, String name) {
+    Document alert = getAlertByName(guildId, name);
     return new EmbedBuilder()
         .setColor(Color.ORANGE)
         .setTitle("Erinnerung")
@@ -1,10 +1,11 @@
 package de.efi23a.bot.features.alert;
 
+import de.efi23a.bot.gateway.Gateway;
 import jakarta.annotation.PostConstruct;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import lombok.RequiredArgsConstructor;
-import net.dv8tion.jda.api.JDA;
+import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.springframework.stereotype.Component;
@@ -12,17 +13,19 @@ import org.springframework.stereotype.Component;
 /**
  * Die Listener Klasse für das Alert Feature.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AlertFeatureListener extends ListenerAdapter {
 
-  private final JDA jda;
+  private final Gateway gateway;
   private final AlertFeature alertFeature;
+  private final AlertImporter alertImporter;
   private final SimpleDateFormat sdf = new SimpleDateFormat("dd.MM.yyyy");
 
   @PostConstruct
   void postConstruct() {
-    jda.addEventListener(this);
+    gateway.addEventListener(this);
   }
 
   @Override
@@ -33,22 +36,24 @@ public class AlertFeatureListener extends ListenerAdapter {
     if (!command.equalsIgnoreCase("alert")) {
       return;
     }
-    if (subcommand == null) {
+    if (subcommand == null || event.getGuild() == null) {
       return;
     }
+    var guildId = event.getGuild().getId();
 
     if (subcommand.equalsIgnoreCase("info")) {
       var name = event.getOption("name").getAsString();
 
-      if (!alertFeature.exists(name)) {
+      if (!alertFeature.exists(guildId, name)) {
         event.reply("Eine Erinnerung mit diesem Namen gibt es nicht.").setEphemeral(true).queue();
         return;
       }
 
-      event.replyEmbeds(alertFeature.getAlertEmbedMessage(name)).setEphemeral(true).queue();
+      event.replyEmbeds(alertFeature.getAlertEmbedMessage(guildId, name)).setEphemeral(true)
+          .queue();
     }
     if (subcommand.equalsIgnoreCase("list")) {
-      var alerts = alertFeature.getAlerts();
+      var alerts = alertFeature.getAlerts(guildId);
       var builder = new StringBuilder();
 
       for (var alert : alerts) {
@@ -67,7 +72,7 @@ public class AlertFeatureListener extends ListenerAdapter {
       var date = event.getOption("date").getAsString();
       final var description = event.getOption("description").getAsString();
 
-      if (alertFeature.exists(name)) {
+      if (alertFeature.exists(guildId, name)) {
         event.reply("Eine Erinnerung mit diesem Namen wurde bereits hinzugefügt. "
             + "Benutze ``/alert edit " + name + "`` !").setEphemeral(true).queue();
         return;
@@ -86,8 +91,14 @@ public class AlertFeatureListener extends ListenerAdapter {
         return;
       }
 
+      // Der eindeutige Index fängt Namen ab, die seit der Prüfung oben angelegt wurden
+      if (!alertFeature.addAlert(guildId, name, dateInstance, description,
+          event.getMember().getEffectiveName())) {
+        event.reply("Eine Erinnerung mit diesem Namen wurde bereits hinzugefügt. "
+            + "Benutze ``/alert edit " + name + "`` !").setEphemeral(true).queue();
+        return;
+      }
       event.reply("Du hast eine neue Erinnerung hinzugefügt.").setEphemeral(true).queue();
-      alertFeature.addAlert(name, dateInstance, description, event.getMember().getEffectiveName());
       return;
     }
     if (subcommand.equalsIgnoreCase("edit")) {
@@ -95,7 +106,7 @@ public class AlertFeatureListener extends ListenerAdapter {
       var property = event.getOption("property").getAsString();
       var value = event.getOption("value").getAsString();
 
-      if (!alertFeature.exists(name)) {
+      if (!alertFeature.exists(guildId, name)) {
         event.reply("Eine Erinnerung mit diesem Namen gibt es nicht.").setEphemeral(true).queue();
         return;
       }
@@ -108,7 +119,7 @@ public class AlertFeatureListener extends ListenerAdapter {
             throw new Exception();
           }
 
-          alertFeature.editAlert(name, property, dateInstance);
+          alertFeature.editAlert(guildId, name, property, dateInstance);
           event.reply("Die Erinnerung '" + name + "' wurde geändert.").setEphemeral(true).queue();
           return;
         } catch (Exception e) {
@@ -118,18 +129,52 @@ public class AlertFeatureListener extends ListenerAdapter {
         }
       }
 
-      alertFeature.editAlert(name, property, value);
+      if (!alertFeature.editAlert(guildId, name, property, value)) {
+        event.reply("Eine Erinnerung mit dem Namen '" + value + "' gibt es bereits.")
+            .setEphemeral(true).queue();
+        return;
+      }
       event.reply("Die Erinnerung '" + name + "' wurde geändert.").setEphemeral(true).queue();
     }
+    if (subcommand.equalsIgnoreCase("import")) {
+      var attachment = event.getOption("file").getAsAttachment();
+      var createdBy = event.getMember().getEffectiveName();
+
+      event.deferReply(true).queue();
+      attachment.getProxy().download().thenAccept(inputStream -> {
+        try (inputStream) {
+          int imported = alertImporter.importAlerts(guildId, inputStream,
+              attachment.getFileName(), createdBy);
+          event.getHook().sendMessage("Es wurden " + imported + " Erinnerungen importiert.")
+              .queue();
+        } catch (IllegalArgumentException e) {
+          event.getHook().sendMessage("Es werden nur ``.ics`` und ``.csv`` Dateien unterstützt.")
+              .queue();
+        } catch (AlertImporter.ImportException e) {
+          log.warn("Importing {} failed for guild {}", attachment.getFileName(), guildId, e);
+          event.getHook().sendMessage("Der Import wurde abgebrochen. Bis dahin wurden "
+              + e.getImported() + " Erinnerungen importiert.").queue();
+        } catch (Exception e) {
+          log.warn("Importing {} failed for guild {}", attachment.getFileName(), guildId, e);
+          event.getHook().sendMessage("Die Datei konnte nicht importiert werden.").queue();
+        }
+      }).exceptionally(throwable -> {
+        log.warn("Downloading {} failed for guild {}", attachment.getFileName(), guildId,
+            throwable);
+        event.getHook().sendMessage("Die Datei konnte nicht geladen werden.").queue();
+        return null;
+      });
+      return;
+    }
     if (subcommand.equalsIgnoreCase("remove")) {
       var name = event.getOption("name").getAsString();
 
-      if (!alertFeature.exists(name)) {
+      if (!alertFeature.exists(guildId, name)) {
         event.reply("Eine Erinnerung mit diesem Namen gibt es nicht.").setEphemeral(true).queue();
         return;
       }
 
-      alertFeature.removeAlert(name);
+      alertFeature.removeAlert(guildId, name);
       event.reply("Die Erinnerung '" + name + "' wurde gelöscht.").setEphemeral(true).queue();
     }
   }
@@ -0,0 +1,318 @@
+package de.efi23a.bot.features.alert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Importiert Erinnerungen aus iCalendar (.ics) oder CSV Dateien.
+ *
+ * <p>Die Dateien werden zeilenweise gelesen und in Blöcken per {@code insertMany} gespeichert,
+ * damit auch große Dateien weder komplett im Speicher liegen noch pro Eintrag ein Insert anfällt.
+ * CSV Dateien haben die Spalten {@code name, date, description} mit Datum im Format
+ * {@code dd.MM.yyyy}; Trennzeichen ist {@code ,} oder {@code ;}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertImporter {
+
+  private static final int BATCH_SIZE = 500;
+  private static final DateTimeFormatter CSV_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("dd.MM.yyyy");
+  private static final DateTimeFormatter ICS_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+  private static final DateTimeFormatter ICS_DATE_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+  private final AlertFeature alertFeature;
+
+  /**
+   * Importiert alle Erinnerungen aus dem Stream, das Format wird anhand des Dateinamens erkannt.
+   * Erinnerungen, deren Name bereits existiert, werden übersprungen.
+   *
+   * @return Anzahl der importierten Erinnerungen
+   * @throws IllegalArgumentException wenn das Dateiformat nicht unterstützt wird
+   * @throws ImportException wenn der Import abbricht, bereits gespeicherte Blöcke bleiben erhalten
+   */
+  public int importAlerts(@NotNull String guildId, @NotNull InputStream inputStream,
+                          @Nullable String fileName, @NotNull String createdBy)
+      throws ImportException {
+    String lowerName = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+    boolean calendar = lowerName.endsWith(".ics");
+    if (!calendar && !lowerName.endsWith(".csv")) {
+      throw new IllegalArgumentException("Unsupported file type: " + fileName);
+    }
+
+    Batch batch = new Batch(guildId, alertFeature.getAlertNames(guildId), createdBy);
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      if (calendar) {
+        readCalendar(reader, batch);
+      } else {
+        readCsv(reader, batch);
+      }
+      batch.flush();
+    } catch (IOException | RuntimeException e) {
+      throw new ImportException(batch.imported, e);
+    }
+
+    log.info("Imported {} alerts from {}", batch.imported, fileName);
+    return batch.imported;
+  }
+
+  //<editor-fold desc="iCalendar">
+
+  /**
+   * Liest alle VEVENTs. Eigenschaften verschachtelter Komponenten wie {@code VALARM} gehören
+   * nicht zur Erinnerung und werden ignoriert. {@code DTSTART} mit {@code TZID} wird in dieser
+   * Zeitzone gelesen, unbekannte Zeitzonen (etwa Windows-Namen aus Outlook) in der des Servers.
+   */
+  private void readCalendar(@NotNull BufferedReader reader, @NotNull Batch batch)
+      throws IOException {
+    String name = null;
+    String description = null;
+    Date date = null;
+    Deque<String> components = new ArrayDeque<>();
+
+    String pending = reader.readLine();
+    while (pending != null) {
+      // Gefaltete Zeilen (beginnen mit Leerzeichen oder Tab) an die vorherige anhängen
+      StringBuilder line = new StringBuilder(pending);
+      String next = reader.readLine();
+      while (next != null && !next.isEmpty()
+          && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+        line.append(next, 1, next.length());
+        next = reader.readLine();
+      }
+      pending = next;
+
+      String unfolded = line.toString();
+      int separator = unfolded.indexOf(':');
+      if (separator < 0) {
+        continue;
+      }
+      String key = unfolded.substring(0, separator);
+      String value = unfolded.substring(separator + 1);
+      String property = (key.contains(";") ? key.substring(0, key.indexOf(';')) : key)
+          .toUpperCase(Locale.ROOT);
+
+      if (property.equals("BEGIN")) {
+        components.push(value.toUpperCase(Locale.ROOT));
+        if (value.equalsIgnoreCase("VEVENT")) {
+          name = null;
+          description = null;
+          date = null;
+        }
+        continue;
+      }
+      if (property.equals("END")) {
+        if ("VEVENT".equals(components.poll())) {
+          batch.add(name, date, description);
+        }
+        continue;
+      }
+      // Eigenschaften außerhalb eines VEVENTs oder in VALARM & Co. überspringen
+      if (!"VEVENT".equals(components.peek())) {
+        continue;
+      }
+
+      if (property.equals("SUMMARY")) {
+        name = unescape(value);
+      } else if (property.equals("DESCRIPTION")) {
+        description = unescape(value);
+      } else if (property.equals("DTSTART")) {
+        date = parseCalendarDate(value, parseZone(key));
+      }
+    }
+  }
+
+  /**
+   * Liest die Zeitzone aus dem Parameter {@code TZID}, sonst die des Servers.
+   */
+  @NotNull
+  private ZoneId parseZone(@NotNull String key) {
+    for (String parameter : key.split(";")) {
+      int equals = parameter.indexOf('=');
+      if (equals < 0 || !parameter.substring(0, equals).equalsIgnoreCase("TZID")) {
+        continue;
+      }
+      String tzid = parameter.substring(equals + 1).replace("\"", "");
+      try {
+        return ZoneId.of(tzid);
+      } catch (DateTimeException e) {
+        log.debug("Unknown TZID {}, using the server time zone", tzid);
+      }
+    }
+    return ZoneId.systemDefault();
+  }
+
+  @Nullable
+  private Date parseCalendarDate(@NotNull String value, @NotNull ZoneId zone) {
+    try {
+      if (value.length() == 8) {
+        LocalDate date = LocalDate.parse(value, ICS_DATE_FORMAT);
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+      }
+      boolean utc = value.endsWith("Z");
+      LocalDateTime dateTime = LocalDateTime.parse(
+          utc ? value.substring(0, value.length() - 1) : value, ICS_DATE_TIME_FORMAT);
+      return Date.from(utc ? dateTime.toInstant(ZoneOffset.UTC)
+          : dateTime.atZone(zone).toInstant());
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  @NotNull
+  private String unescape(@NotNull String value) {
+    StringBuilder builder = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char escaped = value.charAt(++i);
+        builder.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+      } else {
+        builder.append(c);
+      }
+    }
+    return builder.toString();
+  }
+  //</editor-fold>
+
+  //<editor-fold desc="CSV">
+
+  private void readCsv(@NotNull BufferedReader reader, @NotNull Batch batch) throws IOException {
+    String line = reader.readLine();
+    if (line == null) {
+      return;
+    }
+    char delimiter = line.indexOf(';') >= 0 ? ';' : ',';
+
+    List<String> header = splitCsv(line, delimiter);
+    if (!header.isEmpty() && !header.get(0).equalsIgnoreCase("name")) {
+      addCsvRow(header, batch);
+    }
+
+    while ((line = reader.readLine()) != null) {
+      if (!line.isBlank()) {
+        addCsvRow(splitCsv(line, delimiter), batch);
+      }
+    }
+  }
+
+  private void addCsvRow(@NotNull List<String> columns, @NotNull Batch batch) {
+    if (columns.size() < 3) {
+      return;
+    }
+    Date date;
+    try {
+      LocalDate localDate = LocalDate.parse(columns.get(1).trim(), CSV_DATE_FORMAT);
+      date = Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    } catch (DateTimeParseException e) {
+      date = null;
+    }
+    batch.add(columns.get(0).trim(), date, columns.get(2).trim());
+  }
+
+  @NotNull
+  private List<String> splitCsv(@NotNull String line, char delimiter) {
+    List<String> columns = new ArrayList<>();
+    StringBuilder column = new StringBuilder();
+    boolean quoted = false;
+
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          column.append('"');
+          i++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == delimiter && !quoted) {
+        columns.add(column.toString());
+        column.setLength(0);
+      } else {
+        column.append(c);
+      }
+    }
+    columns.add(column.toString());
+    return columns;
+  }
+  //</editor-fold>
+
+  /**
+   * Ein abgebrochener Import mit der Anzahl der Erinnerungen, die bis dahin gespeichert wurden.
+   */
+  public static class ImportException extends Exception {
+
+    @Getter
+    private final int imported;
+
+    private ImportException(int imported, Throwable cause) {
+      super("Import failed after " + imported + " alerts", cause);
+      this.imported = imported;
+    }
+  }
+
+  /**
+   * Sammelt gültige Erinnerungen und schreibt sie blockweise in die Datenbank.
+   */
+  private final class Batch {
+
+    private final String guildId;
+    private final Set<String> knownNames;
+    private final String createdBy;
+    private final List<Document> documents = new ArrayList<>(BATCH_SIZE);
+    private int imported;
+
+    private Batch(String guildId, Set<String> knownNames, String createdBy) {
+      this.guildId = guildId;
+      this.knownNames = knownNames;
+      this.createdBy = createdBy;
+    }
+
+    private void add(@Nullable String name, @Nullable Date date, @Nullable String description) {
+      if (name == null || name.isBlank() || date == null || !knownNames.add(name)) {
+        return;
+      }
+      documents.add(alertFeature.createAlertDocument(guildId, name, date,
+          description == null ? "" : description, createdBy));
+
+      if (documents.size() >= BATCH_SIZE) {
+        flush();
+      }
+    }
+
+    private void flush() {
+      if (documents.isEmpty()) {
+        return;
+      }
+      imported += alertFeature.addAlerts(guildId, documents);
+      documents.clear();
+    }
+  }
+}
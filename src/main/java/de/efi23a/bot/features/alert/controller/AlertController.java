@@ -0,0 +1,53 @@
+package de.efi23a.bot.features.alert.controller;
+
+import de.efi23a.bot.features.alert.AlertCalendarFeed;
+import de.efi23a.bot.features.alert.AlertFeature;
+import de.efi23a.bot.gateway.Gateway;
+import de.efi23a.bot.guild.GuildSettingsProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Stellt die Erinnerungen einer Guild als iCalendar Feed bereit. Guild-IDs sind öffentlich,
+ * deshalb braucht der Feed zusätzlich den geheimen Token aus {@code /settings show}.
+ */
+@RestController
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class AlertController {
+
+  private static final MediaType CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+  private final AlertFeature alertFeature;
+  private final Gateway gateway;
+  private final GuildSettingsProvider settingsProvider;
+
+  @GetMapping("/alerts.ics")
+  ResponseEntity<String> getCalendar(@RequestParam("guild") String guildId,
+                                     @RequestParam("token") String token, WebRequest request) {
+    // Nur Guilds des Bots mit passendem Token, sonst würde jede beliebige ID abgefragt und gecached
+    if (!gateway.servesGuild(guildId) || !settingsProvider.isValidFeedToken(guildId, token)) {
+      return ResponseEntity.notFound().build();
+    }
+
+    AlertCalendarFeed.Feed feed = alertFeature.getCalendarFeed(guildId);
+
+    // Setzt bei passendem If-None-Match den Status 304, der Body wird dann nicht gesendet
+    if (request.checkNotModified(feed.etag())) {
+      return null;
+    }
+
+    return ResponseEntity.ok()
+        .contentType(CALENDAR)
+        .cacheControl(CacheControl.noCache())
+        .eTag(feed.etag())
+        .body(feed.body());
+  }
+
+}
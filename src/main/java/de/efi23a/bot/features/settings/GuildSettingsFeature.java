@@ -0,0 +1,144 @@
+package de.efi23a.bot.features.settings;
+
+import de.efi23a.bot.database.model.GuildSettingsModel;
+import de.efi23a.bot.features.MailForwardingFeature;
+import de.efi23a.bot.gateway.Gateway;
+import de.efi23a.bot.guild.GuildSettingsProvider;
+import jakarta.annotation.PostConstruct;
+import java.awt.Color;
+import lombok.RequiredArgsConstructor;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Slash Command zum Verwalten der Einstellungen einer Guild.
+ */
+@Component
+@RequiredArgsConstructor
+public class GuildSettingsFeature extends ListenerAdapter {
+
+  private final Gateway gateway;
+  private final GuildSettingsProvider settingsProvider;
+  private final MailForwardingFeature mailForwardingFeature;
+
+  @PostConstruct
+  void postConstruct() {
+    registerSettingsCommand();
+    gateway.addEventListener(this);
+  }
+
+  private void registerSettingsCommand() {
+    SlashCommandData cmd = Commands.slash("settings", "Verwalte die Einstellungen des Servers.")
+        .setGuildOnly(true)
+        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER))
+        .addSubcommands(
+            new SubcommandData("show", "Zeigt die aktuellen Einstellungen."),
+            new SubcommandData("feed-token", "Erzeugt einen neuen Link für den Kalender Feed."),
+            new SubcommandData("alert-channel", "Kanal für Erinnerungen festlegen.")
+                .addOptions(textChannelOption("Der Kanal für Erinnerungen.")),
+            new SubcommandData("alert-role", "Rolle, die bei Erinnerungen erwähnt wird.")
+                .addOption(OptionType.ROLE, "role", "Die zu erwähnende Rolle.", true),
+            new SubcommandData("mail", "Mails aus einem Postfach in einen Kanal weiterleiten.")
+                .addOptions(textChannelOption("Der Kanal für Mails."))
+                .addOption(OptionType.STRING, "url", "IMAP URL des Postfachs.", true)
+        );
+
+    gateway.upsertCommand(cmd).queue();
+  }
+
+  private OptionData textChannelOption(String description) {
+    return new OptionData(OptionType.CHANNEL, "channel", description, true)
+        .setChannelTypes(ChannelType.TEXT);
+  }
+
+  @Override
+  public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
+    var subcommand = event.getSubcommandName();
+
+    if (!event.getName().equalsIgnoreCase("settings")) {
+      return;
+    }
+    if (subcommand == null || event.getGuild() == null) {
+      return;
+    }
+
+    var settings = settingsProvider.getSettings(event.getGuild().getId());
+
+    if (subcommand.equalsIgnoreCase("show")) {
+      event.replyEmbeds(buildSettingsEmbed(settings)).setEphemeral(true).queue();
+      return;
+    }
+    if (subcommand.equalsIgnoreCase("feed-token")) {
+      settingsProvider.resetFeedToken(settings);
+      event.reply("Der Kalender Feed hat einen neuen Link, der alte ist ab sofort ungültig.\n"
+          + feedPath(settings)).setEphemeral(true).queue();
+      return;
+    }
+    if (subcommand.equalsIgnoreCase("alert-channel")) {
+      var channel = event.getOption("channel").getAsChannel();
+
+      settings.setAlertChannelId(channel.getId());
+      settingsProvider.saveSettings(settings);
+      event.reply("Erinnerungen werden jetzt in " + channel.getAsMention() + " gesendet.")
+          .setEphemeral(true).queue();
+      return;
+    }
+    if (subcommand.equalsIgnoreCase("alert-role")) {
+      var role = event.getOption("role").getAsRole();
+
+      settings.setAlertRoleId(role.getId());
+      settingsProvider.saveSettings(settings);
+      event.reply("Bei Erinnerungen wird jetzt " + role.getAsMention() + " erwähnt.")
+          .setEphemeral(true).queue();
+      return;
+    }
+    if (subcommand.equalsIgnoreCase("mail")) {
+      var channel = event.getOption("channel").getAsChannel();
+      var url = event.getOption("url").getAsString();
+
+      if (!mailForwardingFeature.isAllowedMailUrl(url)) {
+        event.reply("Es werden nur ``imap://`` oder ``imaps://`` URLs auf öffentliche Server "
+            + "unterstützt.").setEphemeral(true).queue();
+        return;
+      }
+
+      settings.setMailChannelId(channel.getId());
+      settings.setMailUrl(url);
+      settingsProvider.saveSettings(settings);
+      event.reply("Mails werden jetzt in " + channel.getAsMention() + " weitergeleitet.")
+          .setEphemeral(true).queue();
+    }
+  }
+
+  private MessageEmbed buildSettingsEmbed(GuildSettingsModel settings) {
+    return new EmbedBuilder()
+        .setColor(Color.ORANGE)
+        .setTitle("Einstellungen")
+        .addField("Erinnerungs-Kanal", mention("#", settings.getAlertChannelId()), false)
+        .addField("Erinnerungs-Rolle", mention("@&", settings.getAlertRoleId()), false)
+        .addField("Mail-Kanal", mention("#", settings.getMailChannelId()), false)
+        .addField("Mail-Postfach", settings.getMailUrl() != null ? "Konfiguriert" : "-", false)
+        .addField("Kalender Feed (geheim halten)", feedPath(settings), false)
+        .build();
+  }
+
+  private String feedPath(GuildSettingsModel settings) {
+    return "``/alerts.ics?guild=" + settings.getGuildId() + "&token="
+        + settingsProvider.getFeedToken(settings) + "``";
+  }
+
+  private String mention(String prefix, String id) {
+    return id != null ? "<" + prefix + id + ">" : "-";
+  }
+}
@@ -0,0 +1,97 @@
+package de.efi23a.bot.gateway;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zugriff auf Discord über alle Shards dieses Pods.
+ *
+ * <p>Lookups mit bekannter Guild gehen direkt an den zuständigen Shard
+ * ({@code (guildId >> 22) % shardsTotal}), statt alle Shards zu durchsuchen.
+ */
+@Component
+@RequiredArgsConstructor
+public class Gateway {
+
+  private final ShardManager shardManager;
+
+  /**
+   * Registriert die Listener auf allen Shards, auch auf später gestarteten.
+   */
+  public void addEventListener(@NotNull Object... listeners) {
+    shardManager.addEventListener(listeners);
+  }
+
+  /**
+   * Legt einen globalen Slash Command an. Commands gelten für die ganze Anwendung, daher genügt
+   * ein beliebiger Shard.
+   */
+  @NotNull
+  public RestAction<Command> upsertCommand(@NotNull CommandData command) {
+    return shardManager.getShardCache().iterator().next().upsertCommand(command);
+  }
+
+  /**
+   * Liefert die IDs aller Guilds, die von den Shards dieses Pods verwaltet werden.
+   */
+  @NotNull
+  public List<String> getGuildIds() {
+    return shardManager.getGuildCache().stream().map(ISnowflake::getId).toList();
+  }
+
+  /**
+   * Prüft, ob die ID eine gültige Snowflake einer Guild auf den Shards dieses Pods ist.
+   */
+  public boolean servesGuild(@NotNull String guildId) {
+    try {
+      return getGuildById(guildId) != null;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  @Nullable
+  public Guild getGuildById(@NotNull String guildId) {
+    JDA shard = getShardForGuild(guildId);
+    return shard != null ? shard.getGuildById(guildId) : null;
+  }
+
+  @Nullable
+  public TextChannel getTextChannel(@NotNull String guildId, @NotNull String channelId) {
+    Guild guild = getGuildById(guildId);
+    return guild != null ? guild.getTextChannelById(channelId) : null;
+  }
+
+  @Nullable
+  public Role getRole(@NotNull String guildId, @NotNull String roleId) {
+    Guild guild = getGuildById(guildId);
+    return guild != null ? guild.getRoleById(roleId) : null;
+  }
+
+  /**
+   * Sucht einen Kanal ohne bekannte Guild in allen Shards dieses Pods.
+   */
+  @Nullable
+  public TextChannel getTextChannelById(@NotNull String channelId) {
+    return shardManager.getTextChannelById(channelId);
+  }
+
+  @Nullable
+  private JDA getShardForGuild(@NotNull String guildId) {
+    int shardsTotal = shardManager.getShardsTotal();
+    int shardId = (int) ((Long.parseUnsignedLong(guildId) >>> 22) % shardsTotal);
+    return shardManager.getShardById(shardId);
+  }
+}
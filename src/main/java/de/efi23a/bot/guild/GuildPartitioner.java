@@ -0,0 +1,48 @@
+package de.efi23a.bot.guild;
+
+import java.util.Collection;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verteilt die Guilds gleichmäßig auf die Ticks der geplanten Tasks.
+ *
+ * <p>Jede Guild landet fest in einem von {@link #BUCKETS} Buckets, pro Tick wird nur ein Bucket
+ * abgearbeitet. Bei einem Tick pro Minute wird so jede Guild weiterhin alle fünf Minuten geprüft,
+ * die Last verteilt sich aber auf alle Ticks statt auf einen globalen Durchlauf.
+ */
+@Component
+public class GuildPartitioner {
+
+  public static final int BUCKETS = 5;
+
+  /**
+   * Berechnet den Bucket einer Guild aus einem gemischten Hash der ganzen Snowflake-ID.
+   *
+   * <p>Die Shard-ID ist {@code (id >> 22) % shardsTotal}. Hinge der Bucket ebenfalls nur am
+   * Zeitstempel, landeten bei gemeinsamen Teilern von {@link #BUCKETS} und der Shard-Anzahl alle
+   * Guilds eines Shards im selben Bucket.
+   */
+  public int bucketOf(@NotNull String guildId) {
+    // Finalizer aus MurmurHash3, verteilt alle Bits der ID auf das Ergebnis
+    long hash = Long.parseUnsignedLong(guildId);
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return (int) Long.remainderUnsigned(hash, BUCKETS);
+  }
+
+  /**
+   * Filtert die Guilds, die im angegebenen Tick an der Reihe sind.
+   */
+  @NotNull
+  public List<String> dueGuilds(@NotNull Collection<String> guildIds, long tick) {
+    int bucket = (int) Math.floorMod(tick, (long) BUCKETS);
+    return guildIds.stream()
+        .filter(guildId -> bucketOf(guildId) == bucket)
+        .toList();
+  }
+}
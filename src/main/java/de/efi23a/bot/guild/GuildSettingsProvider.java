@@ -0,0 +1,151 @@
+package de.efi23a.bot.guild;
+
+import de.efi23a.bot.config.BotProperties;
+import de.efi23a.bot.database.model.GuildSettingsModel;
+import de.efi23a.bot.database.repository.GuildSettingsRepository;
+import de.efi23a.bot.gateway.Gateway;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Verwaltet die Einstellungen (Alert-Kanal, Alert-Rolle, Mail-Route) pro Guild.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuildSettingsProvider {
+
+  private static final int FEED_TOKEN_BYTES = 24;
+
+  private final SecureRandom random = new SecureRandom();
+  private final Gateway gateway;
+  private final BotProperties properties;
+  private final GuildSettingsRepository repository;
+
+  /**
+   * Guild der alten, globalen Konfiguration über Umgebungsvariablen oder {@code null}.
+   */
+  @Getter
+  @Nullable
+  private String legacyGuildId;
+
+  @PostConstruct
+  void postConstruct() {
+    migrateLegacySettings();
+  }
+
+  @NotNull
+  public GuildSettingsModel getSettings(@NotNull String guildId) {
+    return repository.findById(guildId).orElseGet(() -> new GuildSettingsModel(guildId));
+  }
+
+  /**
+   * Lädt die Einstellungen mehrerer Guilds mit einer einzigen Abfrage.
+   */
+  @NotNull
+  public Map<String, GuildSettingsModel> getSettings(@NotNull Collection<String> guildIds) {
+    return repository.findAllById(guildIds).stream()
+        .collect(Collectors.toMap(GuildSettingsModel::getGuildId, Function.identity()));
+  }
+
+  public GuildSettingsModel saveSettings(@NotNull GuildSettingsModel settings) {
+    return repository.save(settings);
+  }
+
+  /**
+   * Liefert den geheimen Token für den Kalender Feed der Guild und legt ihn beim ersten Aufruf an.
+   */
+  @NotNull
+  public String getFeedToken(@NotNull GuildSettingsModel settings) {
+    if (settings.getFeedToken() == null) {
+      return resetFeedToken(settings);
+    }
+    return settings.getFeedToken();
+  }
+
+  /**
+   * Erzeugt einen neuen Feed Token, bisher geteilte Feed-Links werden damit ungültig.
+   */
+  @NotNull
+  public String resetFeedToken(@NotNull GuildSettingsModel settings) {
+    byte[] bytes = new byte[FEED_TOKEN_BYTES];
+    random.nextBytes(bytes);
+    settings.setFeedToken(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+    repository.save(settings);
+    return settings.getFeedToken();
+  }
+
+  /**
+   * Prüft den Feed Token in konstanter Zeit. Guilds ohne Token haben keinen Feed.
+   */
+  public boolean isValidFeedToken(@NotNull String guildId, @Nullable String token) {
+    String expected = getSettings(guildId).getFeedToken();
+    if (expected == null || token == null) {
+      return false;
+    }
+    return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+        token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Übernimmt die alte, globale Konfiguration einmalig in die Einstellungen der Guilds, zu denen
+   * die konfigurierten Kanäle gehören. Alert- und Mail-Kanal können in verschiedenen Guilds
+   * liegen und werden deshalb getrennt zugeordnet. Bereits gesetzte Werte bleiben erhalten.
+   */
+  private void migrateLegacySettings() {
+    BotProperties.Legacy legacy = properties.legacy();
+    TextChannel alertChannel = findChannel(legacy.alertChannelId());
+    TextChannel mailChannel = findChannel(legacy.mailChannelId());
+
+    if (alertChannel != null) {
+      legacyGuildId = alertChannel.getGuild().getId();
+      GuildSettingsModel settings = getSettings(legacyGuildId);
+      if (settings.getAlertChannelId() == null) {
+        settings.setAlertChannelId(alertChannel.getId());
+        settings.setAlertRoleId(emptyToNull(legacy.alertRoleId()));
+        repository.save(settings);
+        log.info("Migrated legacy alert settings to guild {}", legacyGuildId);
+      }
+    }
+
+    if (mailChannel != null) {
+      String mailGuildId = mailChannel.getGuild().getId();
+      if (legacyGuildId == null) {
+        legacyGuildId = mailGuildId;
+      }
+      GuildSettingsModel settings = getSettings(mailGuildId);
+      if (settings.getMailChannelId() == null) {
+        settings.setMailChannelId(mailChannel.getId());
+        settings.setMailUrl(emptyToNull(legacy.mailUrl()));
+        repository.save(settings);
+        log.info("Migrated legacy mail route to guild {}", mailGuildId);
+      }
+    }
+  }
+
+  @Nullable
+  private TextChannel findChannel(@Nullable String channelId) {
+    String id = emptyToNull(channelId);
+    return id != null ? gateway.getTextChannelById(id) : null;
+  }
+
+  @Nullable
+  private String emptyToNull(@Nullable String value) {
+    return StringUtils.hasText(value) ? value : null;
+  }
+}
@@ -0,0 +1,41 @@
+package de.efi23a.bot.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BotPropertiesTest {
+
+  @Test
+  void acceptsUnsetShards() {
+    assertTrue(new BotProperties.Shards(-1, -1, -1).isRangeValid());
+    assertTrue(new BotProperties.Shards(4, -1, -1).isRangeValid());
+  }
+
+  @Test
+  void acceptsCompleteRanges() {
+    assertTrue(new BotProperties.Shards(4, 0, 3).isRangeValid());
+    assertTrue(new BotProperties.Shards(4, 2, 2).isRangeValid());
+  }
+
+  @Test
+  void rejectsPartialRanges() {
+    assertFalse(new BotProperties.Shards(4, 0, -1).isRangeValid());
+    assertFalse(new BotProperties.Shards(4, -1, 3).isRangeValid());
+    assertFalse(new BotProperties.Shards(-1, 0, 3).isRangeValid());
+  }
+
+  @Test
+  void rejectsInconsistentRanges() {
+    assertFalse(new BotProperties.Shards(0, -1, -1).isRangeValid());
+    assertFalse(new BotProperties.Shards(4, 3, 2).isRangeValid());
+    assertFalse(new BotProperties.Shards(4, 0, 4).isRangeValid());
+  }
+
+  @Test
+  void rangedOnlyWhenMinOrMaxIsSet() {
+    assertFalse(new BotProperties.Shards(4, -1, -1).ranged());
+    assertTrue(new BotProperties.Shards(4, 0, -1).ranged());
+  }
+}
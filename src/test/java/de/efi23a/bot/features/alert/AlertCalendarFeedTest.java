@@ -0,0 +1,91 @@
+package de.efi23a.bot.features.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class AlertCalendarFeedTest {
+
+  private static final String GUILD_ID = "1";
+
+  private final AlertCalendarFeed calendarFeed = new AlertCalendarFeed();
+
+  @Test
+  void foldsLinesAtSeventyFiveOctets() {
+    String name = "Prüfung 🎓 ".repeat(20);
+    String body = calendarFeed.getFeed(GUILD_ID, () -> List.of(alert(name, "Beschreibung")))
+        .body();
+
+    for (String line : body.split("\r\n")) {
+      assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+    }
+    assertFalse(body.contains("?"));
+    assertTrue(unfold(body).contains("SUMMARY:" + name + "\r\n"));
+  }
+
+  @Test
+  void escapesTextAndQuotesParameters() {
+    Document alert = alert("Mathe; Klausur", "Kapitel 1, 2\nund \\ 3");
+    alert.put("createdBy", "Max \"M\" Muster");
+
+    String body = unfold(calendarFeed.getFeed(GUILD_ID, () -> List.of(alert)).body());
+
+    assertTrue(body.contains("SUMMARY:Mathe\\; Klausur\r\n"));
+    assertTrue(body.contains("DESCRIPTION:Kapitel 1\\, 2\\nund \\\\ 3\r\n"));
+    assertTrue(body.contains("ORGANIZER;CN=\"Max M Muster\":noreply@efi23a\r\n"));
+    assertTrue(body.contains("DTSTART;VALUE=DATE:20261120\r\n"));
+    assertTrue(body.contains("DTEND;VALUE=DATE:20261121\r\n"));
+  }
+
+  @Test
+  void keepsEtagUntilAlertsChange() {
+    Document alert = alert("Abgabe", "Bericht");
+    AlertCalendarFeed.Feed first = calendarFeed.getFeed(GUILD_ID, () -> List.of(alert));
+    AlertCalendarFeed.Feed cached = calendarFeed.getFeed(GUILD_ID, List::of);
+
+    assertEquals(first, cached);
+
+    alert.put("description", "Bericht und Folien");
+    calendarFeed.invalidate(GUILD_ID, alert.get("_id"));
+    AlertCalendarFeed.Feed changed = calendarFeed.getFeed(GUILD_ID, () -> List.of(alert));
+
+    assertNotEquals(first.etag(), changed.etag());
+    assertTrue(changed.body().contains("Bericht und Folien"));
+  }
+
+  @Test
+  void rendersChangedAlertsEvenWithoutInvalidation() {
+    Document alert = alert("Abgabe", "Bericht");
+    calendarFeed.getFeed(GUILD_ID, () -> List.of(alert));
+
+    alert.put("name", "Abgabe verschoben");
+    calendarFeed.invalidate(GUILD_ID, null);
+
+    assertTrue(calendarFeed.getFeed(GUILD_ID, () -> List.of(alert)).body()
+        .contains("SUMMARY:Abgabe verschoben"));
+  }
+
+  private Document alert(String name, String description) {
+    Date date = Date.from(LocalDate.of(2026, 11, 20).atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+    return new Document("_id", new ObjectId())
+        .append("name", name)
+        .append("date", date)
+        .append("description", description)
+        .append("createdBy", "Test");
+  }
+
+  private String unfold(String body) {
+    return body.replace("\r\n ", "");
+  }
+}
@@ -0,0 +1,174 @@
+package de.efi23a.bot.features.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AlertImporterTest {
+
+  private static final String GUILD_ID = "1";
+
+  private final List<Document> saved = new ArrayList<>();
+  private final Set<String> knownNames = new HashSet<>();
+  private AlertImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    AlertFeature alertFeature = mock(AlertFeature.class);
+    when(alertFeature.getAlertNames(GUILD_ID)).thenAnswer(invocation -> knownNames);
+    when(alertFeature.createAlertDocument(eq(GUILD_ID), anyString(), any(Date.class),
+        anyString(), anyString())).thenAnswer(invocation -> new Document()
+        .append("name", invocation.getArgument(1))
+        .append("date", invocation.getArgument(2))
+        .append("description", invocation.getArgument(3)));
+    when(alertFeature.addAlerts(eq(GUILD_ID), anyList())).thenAnswer(invocation -> {
+      List<Document> documents = invocation.getArgument(1);
+      saved.addAll(documents);
+      return documents.size();
+    });
+    importer = new AlertImporter(alertFeature);
+  }
+
+  @Test
+  void readsCalendarEventsAndUnfoldsLines() throws Exception {
+    int imported = importFile("alerts.ics", """
+        BEGIN:VCALENDAR
+        BEGIN:VEVENT
+        SUMMARY:Mathe\\, Klausur
+        DESCRIPTION:Kapitel 1 bis
+          3\\nTaschenrechner
+        DTSTART;VALUE=DATE:20261120
+        END:VEVENT
+        END:VCALENDAR
+        """);
+
+    assertEquals(1, imported);
+    Document alert = saved.get(0);
+    assertEquals("Mathe, Klausur", alert.getString("name"));
+    assertEquals("Kapitel 1 bis 3\nTaschenrechner", alert.getString("description"));
+    assertEquals(localDate(2026, 11, 20), alert.getDate("date"));
+  }
+
+  @Test
+  void ignoresPropertiesOfNestedAlarms() throws Exception {
+    importFile("alerts.ics", """
+        BEGIN:VCALENDAR
+        BEGIN:VEVENT
+        SUMMARY:Abgabe
+        DTSTART:20261120T080000Z
+        BEGIN:VALARM
+        ACTION:DISPLAY
+        DESCRIPTION:This is an event reminder
+        END:VALARM
+        DESCRIPTION:Projektbericht
+        END:VEVENT
+        END:VCALENDAR
+        """);
+
+    assertEquals(1, saved.size());
+    assertEquals("Abgabe", saved.get(0).getString("name"));
+    assertEquals("Projektbericht", saved.get(0).getString("description"));
+  }
+
+  @Test
+  void readsStartInItsTimeZone() throws Exception {
+    importFile("alerts.ics", """
+        BEGIN:VEVENT
+        SUMMARY:Tokio
+        DTSTART;TZID=Asia/Tokyo:20261120T090000
+        END:VEVENT
+        BEGIN:VEVENT
+        SUMMARY:UTC
+        DTSTART:20261120T090000Z
+        END:VEVENT
+        """);
+
+    assertEquals(Date.from(ZonedDateTime.of(2026, 11, 20, 9, 0, 0, 0, ZoneId.of("Asia/Tokyo"))
+        .toInstant()), saved.get(0).getDate("date"));
+    assertEquals(Date.from(ZonedDateTime.of(2026, 11, 20, 9, 0, 0, 0, ZoneId.of("UTC"))
+        .toInstant()), saved.get(1).getDate("date"));
+  }
+
+  @Test
+  void readsCsvWithSemicolonsAndQuotes() throws Exception {
+    int imported = importFile("alerts.csv", """
+        name;date;description
+        "Referat; Teil 1";01.12.2026;"Folien ""final""\"
+
+        Kein Datum;morgen;wird übersprungen
+        """);
+
+    assertEquals(1, imported);
+    assertEquals("Referat; Teil 1", saved.get(0).getString("name"));
+    assertEquals("Folien \"final\"", saved.get(0).getString("description"));
+    assertEquals(localDate(2026, 12, 1), saved.get(0).getDate("date"));
+  }
+
+  @Test
+  void readsCsvWithoutHeader() throws Exception {
+    int imported = importFile("ALERTS.CSV", "Test,02.12.2026,Beschreibung\n");
+
+    assertEquals(1, imported);
+    assertEquals("Test", saved.get(0).getString("name"));
+  }
+
+  @Test
+  void skipsKnownAndRepeatedNames() throws Exception {
+    knownNames.add("Alt");
+
+    int imported = importFile("alerts.csv", """
+        Alt,01.12.2026,schon vorhanden
+        Neu,01.12.2026,erste
+        Neu,02.12.2026,doppelt
+        """);
+
+    assertEquals(1, imported);
+    assertEquals("erste", saved.get(0).getString("description"));
+  }
+
+  @Test
+  void savesLargeFilesInBatches() throws Exception {
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 1234; i++) {
+      csv.append("Alert ").append(i).append(",01.12.2026,\n");
+    }
+
+    assertEquals(1234, importFile("alerts.csv", csv.toString()));
+    assertEquals(1234, saved.size());
+  }
+
+  @Test
+  void rejectsUnsupportedFileTypes() {
+    assertThrows(IllegalArgumentException.class, () -> importFile("alerts.txt", ""));
+    assertThrows(IllegalArgumentException.class, () -> importFile(null, ""));
+  }
+
+  private int importFile(String fileName, String content) throws Exception {
+    return importer.importAlerts(GUILD_ID,
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), fileName, "Test");
+  }
+
+  private Date localDate(int year, int month, int day) {
+    return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+  }
+}
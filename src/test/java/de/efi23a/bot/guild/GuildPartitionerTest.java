@@ -0,0 +1,78 @@
+package de.efi23a.bot.guild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GuildPartitionerTest {
+
+  private static final int SHARDS = 5;
+
+  private final GuildPartitioner partitioner = new GuildPartitioner();
+
+  @Test
+  void bucketIsStableAndInRange() {
+    for (String guildId : guildIds(0, 200)) {
+      int bucket = partitioner.bucketOf(guildId);
+
+      assertTrue(bucket >= 0 && bucket < GuildPartitioner.BUCKETS);
+      assertEquals(bucket, partitioner.bucketOf(guildId));
+    }
+  }
+
+  @Test
+  void handlesIdsAboveLongMaxValue() {
+    int bucket = partitioner.bucketOf("18446744073709551615");
+
+    assertTrue(bucket >= 0 && bucket < GuildPartitioner.BUCKETS);
+  }
+
+  @Test
+  void spreadsGuildsOfOneShardOverAllBuckets() {
+    // Gleiche Shard-ID bei SHARDS == BUCKETS, der Bucket darf daran nicht hängen
+    Set<Integer> buckets = new HashSet<>();
+    for (String guildId : guildIds(0, 200)) {
+      buckets.add(partitioner.bucketOf(guildId));
+    }
+
+    assertEquals(GuildPartitioner.BUCKETS, buckets.size());
+  }
+
+  @Test
+  void everyGuildIsDueOncePerRound() {
+    List<String> guildIds = guildIds(3, 200);
+    List<String> due = new ArrayList<>();
+    for (long tick = 7; tick < 7 + GuildPartitioner.BUCKETS; tick++) {
+      due.addAll(partitioner.dueGuilds(guildIds, tick));
+    }
+
+    assertEquals(guildIds.size(), due.size());
+    assertEquals(new HashSet<>(guildIds), new HashSet<>(due));
+  }
+
+  @Test
+  void negativeTicksWrapAround() {
+    List<String> guildIds = guildIds(1, 50);
+
+    assertEquals(partitioner.dueGuilds(guildIds, GuildPartitioner.BUCKETS - 1),
+        partitioner.dueGuilds(guildIds, -1));
+  }
+
+  /**
+   * Erzeugt Snowflakes, die alle auf demselben von {@link #SHARDS} Shards liegen.
+   */
+  private List<String> guildIds(int shard, int count) {
+    List<String> guildIds = new ArrayList<>();
+    long timestamp = 1_100_000_000_000L + shard;
+    for (int i = 0; i < count; i++) {
+      long snowflake = ((timestamp + (long) i * SHARDS) << 22) | (i & 0x3fffff);
+      guildIds.add(Long.toUnsignedString(snowflake));
+    }
+    return guildIds;
+  }
+}